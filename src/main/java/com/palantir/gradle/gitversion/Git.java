@@ -21,6 +21,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -55,6 +56,11 @@ class Git {
     }
 
     private String runGitCmd(Map<String, String> envvars, String... commands) throws IOException, InterruptedException {
+        return runGitCmd(envvars, false, commands);
+    }
+
+    private String runGitCmd(Map<String, String> envvars, boolean failOnError, String... commands)
+            throws IOException, InterruptedException {
         List<String> cmdInput = new ArrayList<>();
         cmdInput.add("git");
         cmdInput.addAll(Arrays.asList(commands));
@@ -77,6 +83,11 @@ class Git {
 
         int exitCode = process.waitFor();
         if (exitCode != 0) {
+            if (failOnError) {
+                throw new IllegalStateException(String.format(
+                        "git %s failed with exit code %d:%n%s",
+                        String.join(" ", commands), exitCode, builder.toString().trim()));
+            }
             return "";
         }
 
@@ -173,6 +184,71 @@ class Git {
         }
     }
 
+    public String getGitCommonDir() {
+        try {
+            String result = runGitCmd("rev-parse", "--git-common-dir");
+            if (result.isEmpty()) {
+                return null;
+            }
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            log.debug("Native git rev-parse --git-common-dir failed", e);
+            return null;
+        }
+    }
+
+    /** Paths of the initialized submodules, recursively, relative to the working tree of this repository. */
+    public List<String> getSubmodulePaths() {
+        try {
+            String result = runGitCmd("submodule", "status", "--recursive");
+            List<String> paths = new ArrayList<>();
+            for (String line : result.split("\\R")) {
+                // each line is "<state><sha> <path>[ (<describe>)]", where a '-' state is not initialized
+                if (line.isEmpty() || line.charAt(0) == '-' || line.indexOf(' ', 1) < 0) {
+                    continue;
+                }
+                String path = line.substring(line.indexOf(' ', 1) + 1);
+                int describeStart = path.lastIndexOf(" (");
+                if (path.endsWith(")") && describeStart >= 0) {
+                    path = path.substring(0, describeStart);
+                }
+                paths.add(path);
+            }
+            return paths;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            log.debug("Native git submodule status failed", e);
+            return new ArrayList<>();
+        }
+    }
+
+    public String countObjects() {
+        try {
+            return runGitCmd("count-objects", "-v");
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            log.debug("Native git count-objects failed", e);
+            return null;
+        }
+    }
+
+    public void writeCommitGraph() {
+        runGitCmdOrThrow("commit-graph", "write", "--reachable");
+    }
+
+    public void packRefs() {
+        runGitCmdOrThrow("pack-refs", "--all");
+    }
+
+    private void runGitCmdOrThrow(String... commands) {
+        try {
+            runGitCmd(new HashMap<>(), true, commands);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
     private boolean gitCommandExists() {
         try {
             // verify that "git" command exists (throws exception if it does not)
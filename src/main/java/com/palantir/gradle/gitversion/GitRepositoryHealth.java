@@ -0,0 +1,146 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.gradle.gitversion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/** The repository state which determines how fast {@link Git#describe(String)} runs. */
+final class GitRepositoryHealth {
+    private static final int DESCRIBE_RUNS = 3;
+    // new commits and fetches always leave a few loose refs behind, so only recommend packing once tags pile up
+    private static final long LOOSE_TAG_REFS_THRESHOLD = 100;
+
+    private final boolean hasCommitGraph;
+    private final long looseRefCount;
+    private final long looseTagRefCount;
+    private final boolean hasPackedRefs;
+    private final long looseObjectCount;
+    private final long packCount;
+    private final long describeMillis;
+
+    private GitRepositoryHealth(
+            boolean hasCommitGraph,
+            long looseRefCount,
+            long looseTagRefCount,
+            boolean hasPackedRefs,
+            long looseObjectCount,
+            long packCount,
+            long describeMillis) {
+        this.hasCommitGraph = hasCommitGraph;
+        this.looseRefCount = looseRefCount;
+        this.looseTagRefCount = looseTagRefCount;
+        this.hasPackedRefs = hasPackedRefs;
+        this.looseObjectCount = looseObjectCount;
+        this.packCount = packCount;
+        this.describeMillis = describeMillis;
+    }
+
+    static GitRepositoryHealth inspect(Git git, File workingDir) {
+        String commonDirStr = git.getGitCommonDir();
+        if (commonDirStr == null) {
+            throw new IllegalStateException("Cannot find git directory for " + workingDir);
+        }
+        File commonDir = new File(commonDirStr);
+        if (!commonDir.isAbsolute()) {
+            commonDir = new File(workingDir, commonDirStr);
+        }
+
+        File objectInfoDir = new File(commonDir, "objects/info");
+        boolean hasCommitGraph = new File(objectInfoDir, "commit-graph").isFile()
+                || new File(objectInfoDir, "commit-graphs/commit-graph-chain").isFile();
+        String countObjects = git.countObjects();
+
+        return new GitRepositoryHealth(
+                hasCommitGraph,
+                countFiles(new File(commonDir, "refs").toPath()),
+                countFiles(new File(commonDir, "refs/tags").toPath()),
+                new File(commonDir, "packed-refs").isFile(),
+                countObjectsField(countObjects, "count"),
+                countObjectsField(countObjects, "packs"),
+                describeMillis(git));
+    }
+
+    boolean hasCommitGraph() {
+        return hasCommitGraph;
+    }
+
+    boolean needsRefPacking() {
+        return looseTagRefCount > LOOSE_TAG_REFS_THRESHOLD;
+    }
+
+    boolean needsOptimization() {
+        return !hasCommitGraph || needsRefPacking();
+    }
+
+    String report() {
+        return String.format(
+                "commit-graph: %s%n"
+                        + "loose refs: %d%n"
+                        + "loose tag refs: %d%n"
+                        + "packed-refs: %s%n"
+                        + "loose objects: %d%n"
+                        + "packs: %d%n"
+                        + "git describe: %dms%n",
+                hasCommitGraph ? "present" : "missing",
+                looseRefCount,
+                looseTagRefCount,
+                hasPackedRefs ? "present" : "missing",
+                looseObjectCount,
+                packCount,
+                describeMillis);
+    }
+
+    private static long countFiles(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long countObjectsField(String countObjects, String field) {
+        if (countObjects == null) {
+            return 0;
+        }
+        for (String line : countObjects.split("\\R")) {
+            if (line.startsWith(field + ": ")) {
+                return Long.parseLong(line.substring(field.length() + 2).trim());
+            }
+        }
+        return 0;
+    }
+
+    // best of a few runs, so that the first run warming the OS file cache does not skew the comparison
+    private static long describeMillis(Git git) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < DESCRIBE_RUNS; i++) {
+            long start = System.nanoTime();
+            git.describe("");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+}
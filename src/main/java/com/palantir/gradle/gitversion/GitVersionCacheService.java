@@ -15,9 +15,28 @@
  */
 package com.palantir.gradle.gitversion;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.services.BuildService;
@@ -25,6 +44,8 @@ import org.gradle.api.services.BuildServiceParameters;
 
 public abstract class GitVersionCacheService implements BuildService<BuildServiceParameters.None> {
 
+    static final int MAX_PARALLEL_REPOSITORIES = 8;
+
     private final ConcurrentMap<String, VersionDetails> versionDetailsMap = new ConcurrentHashMap<>();
 
     public final String getGitVersion(File project, Object args) {
@@ -46,7 +67,100 @@ public abstract class GitVersionCacheService implements BuildService<BuildServic
         return versionDetails;
     }
 
-    private static File getRootGitDir(File currentRoot) {
+    /**
+     * Finds the repository containing {@code rootDir} and its (recursive) submodules below {@code rootDir}, and
+     * resolves their version details in parallel. The results are computed once and cached, so later
+     * {@code gitVersion()} and {@code versionDetails()} calls from any project in those repositories return them
+     * without running git again.
+     *
+     * @return the version details keyed by the working directory of each repository
+     */
+    public final Map<File, VersionDetails> getAllVersionDetails(File rootDir, Object args) {
+        GitVersionArgs gitVersionArgs = GitVersionArgs.fromGroovyClosure(args);
+        File rootGitDir = scanForRootGitDir(rootDir);
+        if (!rootGitDir.exists()) {
+            return Collections.emptyMap();
+        }
+        Set<File> gitDirs = new LinkedHashSet<>();
+        gitDirs.add(rootGitDir);
+        File rootWorkingDir = rootGitDir.getParentFile();
+        for (String submodulePath : new Git(rootWorkingDir).getSubmodulePaths()) {
+            File submoduleDir = new File(rootWorkingDir, submodulePath);
+            File submoduleGitDir = new File(submoduleDir, ".git");
+            if (submoduleDir.toPath().startsWith(rootDir.toPath()) && submoduleGitDir.exists()) {
+                gitDirs.add(submoduleGitDir);
+            }
+        }
+
+        return resolveInParallel(gitDirs, gitDir -> resolveEagerly(gitDir, gitVersionArgs));
+    }
+
+    /**
+     * Resolves each repository on a pool of at most {@link #MAX_PARALLEL_REPOSITORIES} threads. Every resolution runs
+     * to completion before the first failure, if any, is rethrown.
+     */
+    @VisibleForTesting
+    static Map<File, VersionDetails> resolveInParallel(
+            Collection<File> gitDirs, Function<File, VersionDetails> resolver) {
+        if (gitDirs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Callable<VersionDetails>> resolutions = new ArrayList<>();
+        for (File gitDir : gitDirs) {
+            resolutions.add(() -> resolver.apply(gitDir));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                poolSize(gitDirs.size()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("git-version-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            List<Future<VersionDetails>> futures = executor.invokeAll(resolutions);
+            Map<File, VersionDetails> allVersionDetails = new LinkedHashMap<>();
+            int index = 0;
+            for (File gitDir : gitDirs) {
+                allVersionDetails.put(gitDir.getParentFile(), futures.get(index++).get());
+            }
+            return Collections.unmodifiableMap(allVersionDetails);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while resolving git versions", e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException("Failed to resolve git versions", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @VisibleForTesting
+    static int poolSize(int repositories) {
+        return Math.min(repositories, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLEL_REPOSITORIES));
+    }
+
+    private VersionDetails resolveEagerly(File gitDir, GitVersionArgs gitVersionArgs) {
+        String key = gitDir.toPath() + "|" + gitVersionArgs.getPrefix();
+        // run the git commands now, on this thread, and keep their results rather than rerunning them for each project
+        VersionDetails versionDetails = new VersionDetailsImpl(gitDir, gitVersionArgs, true);
+        try {
+            versionDetails.getVersion();
+            versionDetails.getGitHashFull();
+            versionDetails.getBranchName();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        versionDetailsMap.put(key, versionDetails);
+        return versionDetails;
+    }
+
+    static boolean hasGitDir(File currentRoot) {
+        return scanForRootGitDir(currentRoot).exists();
+    }
+
+    static File getRootGitDir(File currentRoot) {
         File gitDir = scanForRootGitDir(currentRoot);
         if (!gitDir.exists()) {
             throw new IllegalArgumentException("Cannot find '.git' directory");
@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.gradle.gitversion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+
+/**
+ * Writes version metadata to a properties file. Packaging it into the jar only, rather than embedding the version into
+ * resources or compiled code, keeps compile outputs and other cacheable tasks independent of the (per-commit) version.
+ *
+ * <p>The version defaults to the project's version, so it matches the artifact even if the project uses a prefix or a
+ * version which does not come from git. The commit hash is absent if no {@code .git} directory can be found.
+ */
+@DisableCachingByDefault(because = "Not worth caching, writing the file is cheaper than a cache lookup")
+public abstract class GitVersionMetadataTask extends DefaultTask {
+
+    @Input
+    public abstract Property<String> getVersion();
+
+    @Input
+    @Optional
+    public abstract Property<String> getGitHashFull();
+
+    @OutputFile
+    public abstract RegularFileProperty getOutputFile();
+
+    @TaskAction
+    public final void writeMetadata() throws IOException {
+        // written by hand rather than with java.util.Properties to avoid the timestamp comment
+        List<String> lines = new ArrayList<>();
+        lines.add("version=" + getVersion().get());
+        if (getGitHashFull().isPresent()) {
+            lines.add("gitHashFull=" + getGitHashFull().get());
+        }
+
+        Path outputFile = getOutputFile().get().getAsFile().toPath();
+        Files.createDirectories(outputFile.getParent());
+        Files.write(outputFile, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.gradle.gitversion;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+import org.gradle.api.tasks.options.Option;
+
+/**
+ * Reports on the state of the git repository that determines how fast {@code git describe} runs (commit-graph, loose
+ * refs and object packing) and, with {@code --fix}, writes the commit-graph and packs refs.
+ */
+@UntrackedTask(because = "Inspects the current state of the git repository")
+public abstract class GitVersionOptimizeTask extends DefaultTask {
+
+    @Internal
+    public abstract DirectoryProperty getProjectDirectory();
+
+    @Input
+    @Option(option = "fix", description = "Writes the commit-graph and packs refs in the local repository.")
+    public abstract Property<Boolean> getFix();
+
+    @OutputFile
+    public abstract RegularFileProperty getReportFile();
+
+    @TaskAction
+    public final void optimize() throws IOException {
+        File gitDir = GitVersionCacheService.getRootGitDir(getProjectDirectory().get().getAsFile());
+        File workingDir = gitDir.getParentFile();
+        Git git = new Git(workingDir);
+
+        GitRepositoryHealth before = GitRepositoryHealth.inspect(git, workingDir);
+        StringBuilder report = new StringBuilder();
+        report.append("Repository: ").append(workingDir).append(System.lineSeparator());
+        report.append(System.lineSeparator()).append("Before:").append(System.lineSeparator());
+        report.append(before.report());
+
+        RuntimeException fixFailure = null;
+        if (getFix().get() && before.needsOptimization()) {
+            try {
+                if (!before.hasCommitGraph()) {
+                    git.writeCommitGraph();
+                }
+                if (before.needsRefPacking()) {
+                    git.packRefs();
+                }
+            } catch (RuntimeException e) {
+                fixFailure = e;
+                report.append(System.lineSeparator()).append(e.getMessage()).append(System.lineSeparator());
+            }
+            GitRepositoryHealth after = GitRepositoryHealth.inspect(git, workingDir);
+            report.append(System.lineSeparator()).append("After:").append(System.lineSeparator());
+            report.append(after.report());
+        } else if (before.needsOptimization()) {
+            report.append(System.lineSeparator())
+                    .append("Run with --fix to write the commit-graph and pack refs.")
+                    .append(System.lineSeparator());
+        }
+
+        Path reportFile = getReportFile().get().getAsFile().toPath();
+        Files.createDirectories(reportFile.getParent());
+        Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8));
+        getLogger().lifecycle(report.toString());
+        if (fixFailure != null) {
+            throw fixFailure;
+        }
+    }
+}
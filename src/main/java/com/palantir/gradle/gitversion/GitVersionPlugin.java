@@ -17,6 +17,10 @@
 package com.palantir.gradle.gitversion;
 
 import groovy.lang.Closure;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
 import org.gradle.api.Action;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
@@ -27,33 +31,79 @@ public final class GitVersionPlugin implements Plugin<Project> {
 
     @Override
     public void apply(final Project project) {
-        project.getRootProject().getPluginManager().apply(GitVersionRootPlugin.class);
+        // only ever touch the project we are applied to so that the plugin is compatible with isolated projects
+        if (GitVersionRootPlugin.isRootProject(project)) {
+            project.getPluginManager().apply(GitVersionRootPlugin.class);
+        }
 
         Provider<GitVersionCacheService> serviceProvider =
                 GitVersionCacheService.getSharedGitVersionCacheService(project);
+        File projectDir = project.getProjectDir();
+        File rootDir = project.getRootDir();
 
         // intentionally not using .getExtension() here for back-compat
         project.getExtensions().getExtraProperties().set("gitVersion", new Closure<String>(this, this) {
             public String doCall(Object args) {
-                return serviceProvider.get().getGitVersion(project.getProjectDir(), args);
+                return serviceProvider.get().getGitVersion(projectDir, args);
             }
         });
 
         project.getExtensions().getExtraProperties().set("versionDetails", new Closure<VersionDetails>(this, this) {
             public VersionDetails doCall(Object args) {
-                return serviceProvider.get().getVersionDetails(project.getProjectDir(), args);
+                return serviceProvider.get().getVersionDetails(projectDir, args);
             }
         });
 
-        Task printVersionTask = project.getTasks().create("printVersion");
-        printVersionTask.doLast(new Action<Task>() {
-            @Override
-            @SuppressWarnings("BanSystemOut")
-            public void execute(Task _task) {
-                System.out.println(project.getVersion());
-            }
+        project.getExtensions()
+                .getExtraProperties()
+                .set("allVersionDetails", new Closure<Map<File, VersionDetails>>(this, this) {
+                    public Map<File, VersionDetails> doCall(Object args) {
+                        return serviceProvider.get().getAllVersionDetails(rootDir, args);
+                    }
+                });
+
+        Provider<String> projectVersion = project.provider(() -> project.getVersion().toString());
+        project.getTasks().register("printVersion", printVersionTask -> {
+            printVersionTask.doLast(new PrintVersionAction(projectVersion));
+            printVersionTask.setGroup("Versioning");
+            printVersionTask.setDescription("Prints the project's configured version to standard out");
         });
-        printVersionTask.setGroup("Versioning");
-        printVersionTask.setDescription("Prints the project's configured version to standard out");
+
+        // source tarballs and exported trees have no .git, which must not fail the task unless gitVersion() is used
+        Provider<String> gitHashFull = serviceProvider.map(service -> GitVersionCacheService.hasGitDir(projectDir)
+                ? gitHashFull(service.getVersionDetails(projectDir, null))
+                : null);
+        project.getTasks().register("writeGitVersionMetadata", GitVersionMetadataTask.class, task -> {
+            task.setGroup("Versioning");
+            task.setDescription("Writes git version metadata, e.g. to be packaged into the project's jar");
+            task.getVersion().convention(projectVersion);
+            task.getGitHashFull().convention(gitHashFull);
+            task.getOutputFile()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .file("generated/git-version/git-version.properties"));
+        });
+    }
+
+    private static String gitHashFull(VersionDetails versionDetails) {
+        try {
+            return versionDetails.getGitHashFull();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class PrintVersionAction implements Action<Task> {
+        private final Provider<String> projectVersion;
+
+        PrintVersionAction(Provider<String> projectVersion) {
+            this.projectVersion = projectVersion;
+        }
+
+        @Override
+        @SuppressWarnings("BanSystemOut")
+        public void execute(Task _task) {
+            System.out.println(projectVersion.get());
+        }
     }
 }
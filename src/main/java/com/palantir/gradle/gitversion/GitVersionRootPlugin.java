@@ -22,9 +22,24 @@ import org.gradle.api.Project;
 final class GitVersionRootPlugin implements Plugin<Project> {
     @Override
     public void apply(Project project) {
-        if (project.getRootProject() != project) {
+        if (!isRootProject(project)) {
             throw new IllegalStateException(String.format(
                     "The %s plugin must be applied to the root project", GitVersionRootPlugin.class.getSimpleName()));
         }
+
+        // subprojects share the root project's repository, so only inspect and rewrite it once per build
+        project.getTasks().register("gitVersionOptimize", GitVersionOptimizeTask.class, task -> {
+            task.setGroup("Versioning");
+            task.setDescription("Reports on the git repository state that slows down describe, --fix repairs it");
+            task.getProjectDirectory().set(project.getLayout().getProjectDirectory());
+            task.getFix().convention(false);
+            task.getReportFile()
+                    .convention(project.getLayout().getBuildDirectory().file("reports/git-version/optimize.txt"));
+        });
+    }
+
+    // compare paths rather than instances as isolated projects hands out wrappers for other projects
+    static boolean isRootProject(Project project) {
+        return Project.PATH_SEPARATOR.equals(project.getPath());
     }
 }
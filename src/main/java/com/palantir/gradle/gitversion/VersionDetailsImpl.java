@@ -17,6 +17,8 @@
 package com.palantir.gradle.gitversion;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import java.io.File;
 import java.io.IOException;
 import java.util.regex.Matcher;
@@ -34,11 +36,32 @@ final class VersionDetailsImpl implements VersionDetails {
 
     private Git nativeGitInvoker;
 
+    private final Supplier<String> description;
+    private final Supplier<Boolean> isClean;
+    private final Supplier<String> gitHashFull;
+    private final Supplier<String> branchName;
+
     VersionDetailsImpl(File gitDir, GitVersionArgs args) {
+        this(gitDir, args, false);
+    }
+
+    /**
+     * @param snapshot whether to run each git command only once and keep returning its first result, rather than
+     *     reflecting changes made to the repository during the build
+     */
+    VersionDetailsImpl(File gitDir, GitVersionArgs args, boolean snapshot) {
         String gitDirStr = gitDir.toString();
         String projectDir = gitDirStr.substring(0, gitDirStr.length() - DOT_GIT_DIR_PATH.length());
         this.nativeGitInvoker = new Git(new File(projectDir));
         this.args = args;
+        this.description = snapshotIf(snapshot, this::computeDescription);
+        this.isClean = snapshotIf(snapshot, () -> nativeGitInvoker.isClean());
+        this.gitHashFull = snapshotIf(snapshot, () -> nativeGitInvoker.getCurrentHeadFullHash());
+        this.branchName = snapshotIf(snapshot, () -> nativeGitInvoker.getCurrentBranch());
+    }
+
+    private static <T> Supplier<T> snapshotIf(boolean snapshot, Supplier<T> supplier) {
+        return snapshot ? Suppliers.memoize(supplier) : supplier;
     }
 
     @Override
@@ -50,10 +73,14 @@ final class VersionDetailsImpl implements VersionDetails {
     }
 
     private boolean isClean() {
-        return nativeGitInvoker.isClean();
+        return isClean.get();
     }
 
     private String description() {
+        return description.get();
+    }
+
+    private String computeDescription() {
         String rawDescription = nativeGitInvoker.describe(args.getPrefix());
         String processedDescription =
                 rawDescription == null ? null : rawDescription.replaceFirst("^" + args.getPrefix(), "");
@@ -102,12 +129,12 @@ final class VersionDetailsImpl implements VersionDetails {
 
     @Override
     public String getGitHashFull() throws IOException {
-        return nativeGitInvoker.getCurrentHeadFullHash();
+        return gitHashFull.get();
     }
 
     @Override
     public String getBranchName() throws IOException {
-        return nativeGitInvoker.getCurrentBranch();
+        return branchName.get();
     }
 
     @Override
@@ -18,6 +18,7 @@ package com.palantir.gradle.gitversion
 import java.nio.file.Files
 import org.gradle.testkit.runner.BuildResult
 import org.gradle.testkit.runner.GradleRunner
+import org.gradle.testkit.runner.TaskOutcome
 import spock.lang.Specification
 
 class GitVersionPluginTests extends Specification {
@@ -577,6 +578,313 @@ class GitVersionPluginTests extends Specification {
         buildResult.output.contains ":sub:printVersion\n8.8.8\n"
     }
 
+    def 'works with isolated projects when applied to root and subprojects' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+            version gitVersion()
+        '''.stripIndent()
+        ['sub1', 'sub2'].each { name ->
+            File subDir = Files.createDirectory(temporaryFolder.toPath().resolve(name)).toFile()
+            new File(subDir, 'build.gradle') << '''
+                plugins {
+                    id 'com.palantir.git-version'
+                }
+                version gitVersion()
+                def details = versionDetails()
+                println "${project.name}: ${details.lastTag} ${details.commitDistance}"
+            '''.stripIndent()
+        }
+        settingsFile << "include 'sub1', 'sub2'\n"
+        new File(projectDir, 'gradle.properties') << '''
+            org.gradle.unsafe.isolated-projects=true
+        '''.stripIndent()
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+        git.runGitCommand("tag", "-a", "1.0.0", "-m", "1.0.0")
+
+        when:
+        BuildResult buildResult = with('printVersion').build()
+
+        then:
+        buildResult.output.contains('sub1: 1.0.0 0')
+        buildResult.output.contains('sub2: 1.0.0 0')
+        buildResult.output.contains(":printVersion\n1.0.0\n")
+        buildResult.output.contains(":sub1:printVersion\n1.0.0\n")
+        buildResult.output.contains(":sub2:printVersion\n1.0.0\n")
+    }
+
+    def 'version metadata in the jar does not invalidate runtime classpath consumers' () {
+        given:
+        settingsFile << "include 'lib', 'app'\n"
+        File libDir = Files.createDirectories(projectDir.toPath().resolve('lib/src/main/java/lib')).toFile()
+        new File(libDir, 'Lib.java') << 'package lib; public class Lib {}\n'
+        new File(projectDir, 'lib/build.gradle') << '''
+            plugins {
+                id 'com.palantir.git-version'
+                id 'java'
+            }
+            version gitVersion()
+            tasks.named('jar') {
+                from(writeGitVersionMetadata) {
+                    into 'META-INF'
+                }
+            }
+        '''.stripIndent()
+        new File(projectDir, 'app/build.gradle') << '''
+            plugins {
+                id 'java'
+            }
+            dependencies {
+                implementation project(':lib')
+            }
+            normalization {
+                runtimeClasspath {
+                    ignore 'META-INF/git-version.properties'
+                }
+            }
+            def checkedFile = layout.buildDirectory.file('checked.txt')
+            tasks.register('checkRuntimeClasspath') {
+                inputs.files(configurations.runtimeClasspath).withNormalizer(ClasspathNormalizer)
+                outputs.file(checkedFile)
+                doLast {
+                    checkedFile.get().asFile.text = 'checked'
+                }
+            }
+        '''.stripIndent()
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+        git.runGitCommand("tag", "-a", "1.0.0", "-m", "1.0.0")
+        with(':app:checkRuntimeClasspath').build()
+        git.runGitCommand("commit", "-m", "'commit 2'", "--allow-empty")
+        String commitSha = git.getCurrentHeadFullHash()
+        String version = "1.0.0-1-g${commitSha.substring(0, 7)}"
+
+        when:
+        BuildResult buildResult = with(':app:checkRuntimeClasspath').build()
+        File jarFile = new File(projectDir, "lib/build/libs/lib-${version}.jar")
+        String metadata = new java.util.zip.ZipFile(jarFile).withCloseable { zip ->
+            zip.getInputStream(zip.getEntry('META-INF/git-version.properties')).text
+        }
+
+        then:
+        buildResult.task(':lib:writeGitVersionMetadata').outcome == TaskOutcome.SUCCESS
+        buildResult.task(':lib:jar').outcome == TaskOutcome.SUCCESS
+        buildResult.task(':app:checkRuntimeClasspath').outcome == TaskOutcome.UP_TO_DATE
+        metadata == "version=${version}\ngitHashFull=${commitSha}\n"
+    }
+
+    def 'version metadata is not added to the jar by default' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+                id 'java'
+            }
+        '''.stripIndent()
+        File sourceDir = Files.createDirectories(projectDir.toPath().resolve('src/main/java/foo')).toFile()
+        new File(sourceDir, 'Foo.java') << 'package foo; public class Foo {}\n'
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+
+        when:
+        BuildResult buildResult = with('jar').build()
+        File jarFile = new File(projectDir, 'build/libs/gradle-test.jar')
+        boolean hasMetadata = new java.util.zip.ZipFile(jarFile).withCloseable { zip ->
+            zip.getEntry('META-INF/git-version.properties') != null
+        }
+
+        then:
+        buildResult.task(':writeGitVersionMetadata') == null
+        !hasMetadata
+    }
+
+    def 'version metadata does not require a git repo' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+            version '2.0.0'
+        '''.stripIndent()
+
+        when:
+        BuildResult buildResult = with('writeGitVersionMetadata').build()
+
+        then:
+        buildResult.task(':writeGitVersionMetadata').outcome == TaskOutcome.SUCCESS
+        new File(projectDir, 'build/generated/git-version/git-version.properties').text == 'version=2.0.0\n'
+    }
+
+    def 'gitVersionOptimize reports and fixes repository state' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+        '''.stripIndent()
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+        git.runGitCommand("tag", "-a", "1.0.0", "-m", "1.0.0")
+        for (int i = 0; i < 100; i++) {
+            git.runGitCommand("tag", "0.0.${i}")
+        }
+
+        when:
+        BuildResult reportResult = with('gitVersionOptimize').build()
+        BuildResult fixResult = with('gitVersionOptimize', '--fix').build()
+
+        then:
+        reportResult.output.contains("Before:\ncommit-graph: missing\nloose refs: 102\nloose tag refs: 101\n")
+        reportResult.output.contains("Run with --fix")
+        !reportResult.output.contains("After:")
+        fixResult.output.contains(
+                "After:\ncommit-graph: present\nloose refs: 0\nloose tag refs: 0\npacked-refs: present\n")
+        new File(projectDir, 'build/reports/git-version/optimize.txt').text.contains("After:")
+    }
+
+    def 'gitVersionOptimize fails when git cannot fix the repository' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+        '''.stripIndent()
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+        git.runGitCommand("tag", "-a", "1.0.0", "-m", "1.0.0")
+        new File(projectDir, '.git/objects/info').mkdirs()
+        new File(projectDir, '.git/objects/info/commit-graph.lock').createNewFile()
+
+        when:
+        BuildResult buildResult = with('gitVersionOptimize', '--fix').buildAndFail()
+
+        then:
+        buildResult.output.contains("git commit-graph write --reachable failed")
+        buildResult.output.contains("After:\ncommit-graph: missing\n")
+    }
+
+    def 'gitVersionOptimize leaves a healthy repository alone' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+        '''.stripIndent()
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+        git.runGitCommand("tag", "-a", "1.0.0", "-m", "1.0.0")
+        git.runGitCommand("commit-graph", "write", "--reachable")
+
+        when:
+        BuildResult reportResult = with('gitVersionOptimize').build()
+        BuildResult fixResult = with('gitVersionOptimize', '--fix').build()
+
+        then:
+        reportResult.output.contains("Before:\ncommit-graph: present\nloose refs: 2\nloose tag refs: 1\n")
+        !reportResult.output.contains("Run with --fix")
+        !fixResult.output.contains("After:")
+        !new File(projectDir, '.git/packed-refs').exists()
+    }
+
+    def 'gitVersionOptimize is only registered on the root project' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+            subprojects {
+                apply plugin: 'com.palantir.git-version'
+            }
+        '''.stripIndent()
+        settingsFile << "include 'sub'\n"
+        Files.createDirectory(projectDir.toPath().resolve('sub'))
+        gitIgnoreFile << 'build\n'
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+
+        when:
+        BuildResult buildResult = with('gitVersionOptimize').build()
+
+        then:
+        buildResult.task(':gitVersionOptimize').outcome == TaskOutcome.SUCCESS
+        buildResult.task(':sub:gitVersionOptimize') == null
+    }
+
+    def 'all version details resolves submodules and serves them to subprojects' () {
+        given:
+        buildFile << '''
+            plugins {
+                id 'com.palantir.git-version'
+            }
+            def allDetails = allVersionDetails()
+            allDetails.each { dir, details ->
+                println "${rootDir.toPath().relativize(dir.toPath())}: ${details.lastTag}"
+            }
+            version gitVersion()
+            subprojects {
+                apply plugin: 'com.palantir.git-version'
+                version gitVersion()
+            }
+            println "sub1 prefetched: ${project(':sub1').versionDetails().is(allDetails[file('sub1')])}"
+            println "sub2 prefetched: ${project(':sub2').versionDetails().is(allDetails[file('sub2')])}"
+        '''.stripIndent()
+
+        settingsFile << "include 'sub1', 'sub2'"
+        gitIgnoreFile << 'build\n'
+
+        Git git = new Git(projectDir, true)
+        git.runGitCommand("init", projectDir.toString())
+        ['sub1': '8.8.8', 'sub2': '9.9.9'].each { name, tag ->
+            File sourceDir = File.createTempDir('GitVersionPluginTestSubmodule')
+            new File(sourceDir, '.gitignore') << 'build\n'
+            Git sourceGit = new Git(sourceDir, true)
+            sourceGit.runGitCommand("init", sourceDir.toString())
+            sourceGit.runGitCommand("add", ".")
+            sourceGit.runGitCommand("commit", "-m", "'initial commit sub'")
+            sourceGit.runGitCommand("tag", "-a", tag, "-m", tag)
+            git.runGitCommand("-c", "protocol.file.allow=always", "submodule", "add", sourceDir.toString(), name)
+        }
+        git.runGitCommand("add", ".")
+        git.runGitCommand("commit", "-m", "'initial commit'")
+        git.runGitCommand("tag", "-a", "1.0.0", "-m", "1.0.0")
+
+        when:
+        BuildResult buildResult = with('printVersion', ':sub1:printVersion', ':sub2:printVersion').build()
+
+        then:
+        buildResult.output.contains(": 1.0.0\n")
+        buildResult.output.contains("sub1: 8.8.8\n")
+        buildResult.output.contains("sub2: 9.9.9\n")
+        buildResult.output.contains("sub1 prefetched: true\n")
+        buildResult.output.contains("sub2 prefetched: true\n")
+        buildResult.output.contains ":printVersion\n1.0.0\n"
+        buildResult.output.contains ":sub1:printVersion\n8.8.8\n"
+        buildResult.output.contains ":sub2:printVersion\n9.9.9\n"
+    }
+
     def 'test multiple tags on same commit - annotated tag is chosen' () {
         given:
         buildFile << '''
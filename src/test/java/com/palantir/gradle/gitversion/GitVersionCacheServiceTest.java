@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.gradle.gitversion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+public class GitVersionCacheServiceTest {
+
+    private static final int REPOSITORIES = GitVersionCacheService.MAX_PARALLEL_REPOSITORIES * 2;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final Set<File> resolved = ConcurrentHashMap.newKeySet();
+
+    @Test
+    public void resolves_all_repositories_on_a_bounded_pool() {
+        List<File> gitDirs = gitDirs();
+
+        Map<File, VersionDetails> allVersionDetails =
+                GitVersionCacheService.resolveInParallel(gitDirs, resolver());
+
+        assertThat(allVersionDetails).hasSize(REPOSITORIES);
+        for (File gitDir : gitDirs) {
+            assertThat(allVersionDetails).containsKey(gitDir.getParentFile());
+        }
+        assertThat(resolved).containsExactlyInAnyOrderElementsOf(gitDirs);
+        int poolSize = GitVersionCacheService.poolSize(REPOSITORIES);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(poolSize);
+        if (poolSize > 1) {
+            assertThat(maxRunning.get()).isGreaterThan(1);
+        }
+    }
+
+    @Test
+    public void propagates_failure_unchanged_after_resolving_other_repositories() {
+        List<File> gitDirs = gitDirs();
+        File failingGitDir = gitDirs.get(1);
+        IllegalStateException failure = new IllegalStateException("git describe failed");
+
+        assertThatThrownBy(() -> GitVersionCacheService.resolveInParallel(gitDirs, gitDir -> {
+                    if (gitDir.equals(failingGitDir)) {
+                        throw failure;
+                    }
+                    return resolver().apply(gitDir);
+                }))
+                .isSameAs(failure);
+
+        List<File> otherGitDirs = new ArrayList<>(gitDirs);
+        otherGitDirs.remove(failingGitDir);
+        assertThat(resolved).containsExactlyInAnyOrderElementsOf(otherGitDirs);
+    }
+
+    private static List<File> gitDirs() {
+        List<File> gitDirs = new ArrayList<>();
+        for (int i = 0; i < REPOSITORIES; i++) {
+            gitDirs.add(new File(new File("repo" + i), ".git"));
+        }
+        return gitDirs;
+    }
+
+    private Function<File, VersionDetails> resolver() {
+        return gitDir -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+            resolved.add(gitDir);
+            return null;
+        };
+    }
+}